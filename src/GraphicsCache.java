@@ -0,0 +1,178 @@
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class GraphicsCache {
+    private static final int MAGIC = 0x4C354743;
+    private static final int VERSION = 2;
+    private static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+    private static final String SUFFIX = ".cache";
+
+    private final File directory;
+    private final long maxSize;
+
+    public GraphicsCache() {
+        this(new File(System.getProperty("user.home"), ".graphics-cache"), DEFAULT_MAX_SIZE);
+    }
+
+    public GraphicsCache(File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    public GraphicsSnapshot load(File source) {
+        File cacheFile;
+        String path;
+        try {
+            path = source.getCanonicalPath();
+            cacheFile = cacheFileFor(path);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!cacheFile.isFile()) return null;
+
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > maxSize) throw new IOException("Cache file exceeds size limit");
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.limit(HEADER_SIZE);
+            read(channel, buffer);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+            if (buffer.getLong() != source.length() || buffer.getLong() != source.lastModified()) return null;
+            int pathLength = buffer.getInt();
+            if (pathLength < 0 || pathLength > BUFFER_SIZE - 8) throw new IOException("Corrupt cache header");
+
+            buffer.clear().limit(pathLength + 8);
+            read(channel, buffer);
+            byte[] pathBytes = new byte[pathLength];
+            buffer.get(pathBytes);
+            if (!path.equals(new String(pathBytes, StandardCharsets.UTF_8))) return null;
+
+            int count = buffer.getInt();
+            int regionCount = buffer.getInt();
+            if (count < 0 || regionCount < 0
+                    || doubleCount(count, regionCount) * Double.BYTES != channel.size() - channel.position()) {
+                throw new IOException("Corrupt cache header");
+            }
+
+            double[] bounds = new double[4];
+            readDoubles(channel, buffer, bounds);
+            double[][] xChunks = GraphicsSnapshot.newChunks(count);
+            for (double[] chunk : xChunks) readDoubles(channel, buffer, chunk);
+            double[][] yChunks = GraphicsSnapshot.newChunks(count);
+            for (double[] chunk : yChunks) readDoubles(channel, buffer, chunk);
+            double[] regions = new double[regionCount];
+            readDoubles(channel, buffer, regions);
+            double[] squares = new double[Math.max(regionCount - 1, 0)];
+            readDoubles(channel, buffer, squares);
+            cacheFile.setLastModified(System.currentTimeMillis());
+            return GraphicsSnapshot.fromColumns(count, xChunks, yChunks, bounds, regions, squares);
+        } catch (IOException | RuntimeException e) {
+            cacheFile.delete();
+            return null;
+        }
+    }
+
+    public void store(File source, GraphicsSnapshot snapshot, long length, long lastModified) {
+        if (!snapshot.isAnalyzed()) return;
+        try {
+            if (source.length() != length || source.lastModified() != lastModified) return;
+            String path = source.getCanonicalPath();
+            byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+            if (pathBytes.length > BUFFER_SIZE - 8) return;
+            int count = snapshot.size();
+            int regionCount = snapshot.regionCount();
+            long size = HEADER_SIZE + pathBytes.length + 4 + 4 + doubleCount(count, regionCount) * Double.BYTES;
+            if (size > maxSize) return;
+
+            if (!directory.isDirectory() && !directory.mkdirs()) return;
+
+            File cacheFile = cacheFileFor(path);
+            File tmpFile = File.createTempFile("graphics", ".tmp", directory);
+            try {
+                try (FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                    buffer.putInt(MAGIC).putInt(VERSION);
+                    buffer.putLong(length).putLong(lastModified);
+                    buffer.putInt(pathBytes.length).put(pathBytes);
+                    buffer.putInt(count).putInt(regionCount);
+                    Double[][] bounds = snapshot.getBounds();
+                    for (Double[] p : bounds) {
+                        putDouble(channel, buffer, p[0]);
+                        putDouble(channel, buffer, p[1]);
+                    }
+                    for (int i = 0; i < count; i++) putDouble(channel, buffer, snapshot.x(i));
+                    for (int i = 0; i < count; i++) putDouble(channel, buffer, snapshot.y(i));
+                    for (int i = 0; i < regionCount; i++) putDouble(channel, buffer, snapshot.region(i));
+                    for (int i = 0; i < regionCount - 1; i++) putDouble(channel, buffer, snapshot.square(i));
+                    flush(channel, buffer);
+                }
+                Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                tmpFile.delete();
+            }
+            evict();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    protected void evict() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) return;
+        long total = 0;
+        for (File f : files) total += f.length();
+        if (total <= maxSize) return;
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length && total > maxSize; i++) {
+            long length = files[i].length();
+            if (files[i].delete()) total -= length;
+        }
+    }
+
+    protected File cacheFileFor(String path) {
+        return new File(directory, Integer.toHexString(path.hashCode()) + SUFFIX);
+    }
+
+    private static long doubleCount(int count, int regionCount) {
+        return 4 + 2L * count + regionCount + Math.max(regionCount - 1, 0);
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new EOFException();
+        }
+        buffer.flip();
+    }
+
+    private static void readDoubles(FileChannel channel, ByteBuffer buffer, double[] dest) throws IOException {
+        for (int off = 0; off < dest.length; ) {
+            int n = Math.min(dest.length - off, buffer.capacity() / Double.BYTES);
+            buffer.clear().limit(n * Double.BYTES);
+            read(channel, buffer);
+            buffer.asDoubleBuffer().get(dest, off, n);
+            off += n;
+        }
+    }
+
+    private static void putDouble(FileChannel channel, ByteBuffer buffer, double value) throws IOException {
+        if (buffer.remaining() < Double.BYTES) flush(channel, buffer);
+        buffer.putDouble(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -5,21 +5,35 @@ import java.awt.event.MouseMotionAdapter;
 import java.awt.font.FontRenderContext;
 import java.awt.geom.*;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.swing.*;
+import javax.swing.Timer;
 
 @SuppressWarnings("serial")
 public class GraphicsDisplay extends JPanel {
 
-    private Double[][] graphicsData;
-    private ArrayList<Double> regions;
-    private ArrayList<Double> squares;
+    private final AtomicReference<GraphicsSnapshot> model = new AtomicReference<>();
+    private GraphicsSnapshot snapshot;
+    private GraphicsSnapshot regionSnapshot;
+
+    private final ExecutorService analysisExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "graphics-analysis");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean analysisScheduled = new AtomicBoolean();
 
     private static final double TURN_ANGLE = Math.PI / 2;
     private static final int MARKER_SIZE = 5;
+    private static final int DEFAULT_REFRESH_RATE = 60;
+    private static final int DIRTY_MARGIN = 4;
 
     private boolean showAxis = true;
     private boolean showMarkers = true;
-    private boolean showRegions = false;
+    private volatile boolean showRegions = false;
 
     private boolean showRectangle = false;
     private Integer dragPoint = null;
@@ -30,7 +44,7 @@ public class GraphicsDisplay extends JPanel {
 
     private byte turnCount = 0;
 
-    private Double[] pointToPaint = null;
+    private int pointToPaint = -1;
 
     private double minX;
     private double maxX;
@@ -45,6 +59,10 @@ public class GraphicsDisplay extends JPanel {
     private BasicStroke rectStroke;
 
     private Font axisFont;
+    private Font pointFont;
+
+    private Timer frameTimer;
+    private Rectangle dirtyArea = null;
 
     public GraphicsDisplay() {
         setBackground(Color.gray);
@@ -55,13 +73,20 @@ public class GraphicsDisplay extends JPanel {
         axisStroke = new BasicStroke(2.0f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, null, 0.0f);
         markerStroke = new BasicStroke(1.0f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10.0f, null, 0.0f);
         axisFont = new Font("Serif", Font.BOLD, 36);
+        pointFont = new Font("TimesNewRoman", Font.BOLD, 16);
 
+        frameTimer = new Timer(frameDelay(), e -> {
+            Rectangle area = dirtyArea;
+            dirtyArea = null;
+            if (area != null) repaint(area);
+        });
+        frameTimer.setRepeats(false);
 
         this.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
                 super.mousePressed(e);
-                if (graphicsData == null) return;
+                if (snapshot == null) return;
                 if (e.getButton() == MouseEvent.BUTTON3 && zooms != null) {
                     if (zooms.size() > 1) {
                         zooms.pop();
@@ -69,12 +94,13 @@ public class GraphicsDisplay extends JPanel {
                     }
                 } else if (e.getButton() == MouseEvent.BUTTON1) {
                     Double[] point = pointToXY(e.getPoint());
-                    int k = Arrays.binarySearch(graphicsData, point, new DataComparatorForSearch(MARKER_SIZE / scale));
+                    int k = snapshot.indexOf(point[0], point[1], MARKER_SIZE / scale);
                     if (k >= 0) {
                         dragPoint = k;
                     } else {
                         showRectangle = true;
                         rectPoint1 = e.getPoint();
+                        rectPoint2 = null;
                     }
                 }
             }
@@ -82,62 +108,79 @@ public class GraphicsDisplay extends JPanel {
             @Override
             public void mouseReleased(MouseEvent e) {
                 super.mouseReleased(e);
-                if (graphicsData == null) return;
+                if (snapshot == null) return;
                 if (dragPoint != null) {
                     dragPoint = null;
                 } else if (e.getButton() == MouseEvent.BUTTON1 && showRectangle) {
                     showRectangle = false;
-                    Double[][] zoom = new Double[][]{pointToXY(rectPoint1), pointToXY(rectPoint2)};
-                    zooms.push(zoom);
+                    if (rectPoint2 == null) return;
+                    if (rectPoint1.getX() != rectPoint2.getX() && rectPoint1.getY() != rectPoint2.getY()) {
+                        Double[][] zoom = new Double[][]{pointToXY(rectPoint1), pointToXY(rectPoint2)};
+                        zooms.push(zoom);
+                    }
                     repaint();
                 }
             }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                super.mouseExited(e);
+                if (pointToPaint >= 0) {
+                    scheduleRepaint(pointArea(pointToPaint));
+                    pointToPaint = -1;
+                }
+            }
         });
 
         this.addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseDragged(MouseEvent e) {
                 super.mouseDragged(e);
-                if (graphicsData == null) return;
+                if (snapshot == null) return;
                 if (dragPoint != null) {
-                    graphicsData[dragPoint][1] = pointToXY(e.getPoint())[1];
-                    regions = null;
-                    repaint();
-                } else {
+                    int index = dragPoint;
+                    double y = pointToXY(e.getPoint())[1];
+                    GraphicsSnapshot painted = snapshot;
+                    model.updateAndGet(current -> current.isSameLoad(painted) ? current.withY(index, y) : current);
+                    scheduleAnalysis();
+                    scheduleRepaint();
+                } else if (showRectangle) {
+                    if (rectPoint2 != null) scheduleRepaint(rectangleArea());
                     rectPoint2 = e.getPoint();
-                    repaint();
+                    scheduleRepaint(rectangleArea());
                 }
             }
 
             @Override
             public void mouseMoved(MouseEvent e) {
-                if (graphicsData != null) {
+                if (snapshot != null) {
                     super.mouseMoved(e);
                     Double[] point = pointToXY(e.getPoint());
-                    int k = Arrays.binarySearch(graphicsData, point, new DataComparatorForSearch(MARKER_SIZE / scale));
-                    if (k >= 0) {
-                        pointToPaint = graphicsData[k];
-                        repaint();
-                    } else {
-                        pointToPaint = null;
-                        repaint();
-                    }
+                    int hit = snapshot.indexOf(point[0], point[1], MARKER_SIZE / scale);
+                    if (hit == pointToPaint) return;
+                    if (pointToPaint >= 0) scheduleRepaint(pointArea(pointToPaint));
+                    pointToPaint = hit;
+                    if (pointToPaint >= 0) scheduleRepaint(pointArea(pointToPaint));
                 }
             }
         });
     }
 
-    public void showGraphics(Double[][] graphicsData) {
-        this.graphicsData = graphicsData;
-        Arrays.sort(graphicsData, new DataComparatorForSort());
-        regions = null;
-        squares = null;
-        zooms = null;
+    public void showGraphics(GraphicsSnapshot graphicsData) {
+        model.set(graphicsData);
+        scheduleAnalysis();
         repaint();
     }
 
+    public boolean replaceGraphics(GraphicsSnapshot expected, GraphicsSnapshot updated) {
+        if (!model.compareAndSet(expected, updated)) return false;
+        repaint();
+        return true;
+    }
+
     public Double[][] getGraphicsData() {
-        return graphicsData;
+        GraphicsSnapshot current = model.get();
+        return current == null ? null : current.toArray();
     }
 
     public void setShowAxis(boolean showAxis) {
@@ -152,25 +195,27 @@ public class GraphicsDisplay extends JPanel {
 
     public void setShowRegions(boolean showRegions) {
         this.showRegions = showRegions;
+        scheduleAnalysis();
         repaint();
     }
 
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (graphicsData == null || graphicsData.length == 0) return;
+        GraphicsSnapshot current = model.get();
+        if (current == null || current.size() == 0) return;
+
+        if (!current.isSameLoad(snapshot)) {
+            zooms = null;
+            pointToPaint = -1;
+            dragPoint = null;
+        }
+        if (current.isAnalyzed()) regionSnapshot = current;
+        else if (!current.isSameLoad(regionSnapshot)) regionSnapshot = null;
+        snapshot = current;
 
         if (zooms == null) {
-            minX = graphicsData[0][0];
-            maxX = graphicsData[graphicsData.length - 1][0];
-            minY = graphicsData[0][1];
-            maxY = minY;
-            for (int i = 1; i < graphicsData.length; i++) {
-                if (graphicsData[i][1] < minY) minY = graphicsData[i][1];
-                if (graphicsData[i][1] > maxY) maxY = graphicsData[i][1];
-            }
-            Double[][] p = new Double[][]{{minX, minY},{maxX,maxY}};
             zooms = new Stack<>();
-            zooms.push(p);
+            zooms.push(snapshot.getBounds());
         }
 
         if (zooms.peek()[1][0] > zooms.peek()[0][0]) {
@@ -216,11 +261,8 @@ public class GraphicsDisplay extends JPanel {
         if (showAxis) paintAxis(canvas);
         paintGraphics(canvas);
         if (showMarkers) paintMarkers(canvas);
-        if (showRegions) {
-            if (regions == null) findRegions();
-            paintRegions(canvas);
-        }
-        if (pointToPaint != null) {
+        if (showRegions) paintRegions(canvas);
+        if (pointToPaint >= 0) {
             paintPoint(canvas);
         }
         if (showRectangle) paintRectangle(canvas);
@@ -246,16 +288,16 @@ public class GraphicsDisplay extends JPanel {
     }
 
     protected void paintGraphics(Graphics2D canvas) {
-        int firstInd = 0; for (;firstInd < graphicsData.length && graphicsData[firstInd][0] < minX; ++firstInd ) ; if(firstInd != 0) --firstInd;
+        int firstInd = 0; for (;firstInd < snapshot.size() && snapshot.x(firstInd) < minX; ++firstInd ) ; if(firstInd != 0) --firstInd;
         canvas.setStroke(graphicsStroke);
         canvas.setColor(Color.RED);
 
         GeneralPath graphics = new GeneralPath();
 
-        Point2D.Double point = xyToPoint(graphicsData[firstInd][0], graphicsData[firstInd][1]);
+        Point2D.Double point = xyToPoint(snapshot.x(firstInd), snapshot.y(firstInd));
         graphics.moveTo(point.getX(), point.getY());
-        for (int i = firstInd + 1; i < graphicsData.length; i++) {
-            point = xyToPoint(graphicsData[i][0], graphicsData[i][1]);
+        for (int i = firstInd + 1; i < snapshot.size(); i++) {
+            point = xyToPoint(snapshot.x(i), snapshot.y(i));
             graphics.lineTo(point.getX(), point.getY());
 
         }
@@ -277,45 +319,108 @@ public class GraphicsDisplay extends JPanel {
     }
 
     protected void paintPoint(Graphics2D canvas) {
-        if (pointToPaint != null) {
+        if (pointToPaint >= 0) {
             canvas.setPaint(Color.YELLOW);
-            String format = "%.4f";
-            canvas.setFont(new Font("TimesNewRoman", Font.BOLD, 16));
-            Rectangle2D bounds = canvas.getFont().getStringBounds("(" + String.format(Locale.ENGLISH, format, pointToPaint[0])
-                            + "," + String.format(Locale.ENGLISH, format, pointToPaint[1]) + ")", canvas.getFontRenderContext());
-
-            Point2D po = xyToPoint(pointToPaint[0], pointToPaint[1]);
-            double posX = po.getX() - bounds.getWidth() / 2;
-            double posY = po.getY() - bounds.getHeight() / 2;
-            if (posX + bounds.getWidth() > xyToPoint(maxX, 0).getX())
-                posX = xyToPoint(maxX, 0).getX() - bounds.getWidth();
-            else if (posX < 0) posX = 0;
-            if (posY - bounds.getHeight() < xyToPoint(0, maxY).getY())
-                posY = xyToPoint(0, maxY).getY() + bounds.getHeight();
-
-            canvas.drawString("(" + String.format(Locale.ENGLISH, format, pointToPaint[0]) + ";"
-                            + String.format(Locale.ENGLISH, format, pointToPaint[1]) + ")",
-                    (float) posX, (float) posY);
-            pointToPaint = null;
+            canvas.setFont(pointFont);
+            String label = pointLabel(pointToPaint);
+            Rectangle2D bounds = pointFont.getStringBounds(label, canvas.getFontRenderContext());
+            Point2D.Double pos = pointLabelPosition(pointToPaint, bounds);
+            canvas.drawString(label, (float) pos.getX(), (float) pos.getY());
         }
     }
 
+    protected String pointLabel(int point) {
+        String format = "%.4f";
+        return "(" + String.format(Locale.ENGLISH, format, snapshot.x(point)) + ";"
+                + String.format(Locale.ENGLISH, format, snapshot.y(point)) + ")";
+    }
+
+    protected Point2D.Double pointLabelPosition(int point, Rectangle2D bounds) {
+        Point2D po = xyToPoint(snapshot.x(point), snapshot.y(point));
+        double posX = po.getX() - bounds.getWidth() / 2;
+        double posY = po.getY() - bounds.getHeight() / 2;
+        if (posX + bounds.getWidth() > xyToPoint(maxX, 0).getX())
+            posX = xyToPoint(maxX, 0).getX() - bounds.getWidth();
+        else if (posX < 0) posX = 0;
+        if (posY - bounds.getHeight() < xyToPoint(0, maxY).getY())
+            posY = xyToPoint(0, maxY).getY() + bounds.getHeight();
+        return new Point2D.Double(posX, posY);
+    }
+
+    protected Rectangle pointArea(int point) {
+        String label = pointLabel(point);
+        Rectangle2D bounds = pointFont.getStringBounds(label, getFontMetrics(pointFont).getFontRenderContext());
+        Point2D.Double pos = pointLabelPosition(point, bounds);
+        Rectangle2D area = new Rectangle2D.Double(pos.getX() + bounds.getX(), pos.getY() + bounds.getY(),
+                bounds.getWidth(), bounds.getHeight());
+        Point2D.Double center = xyToPoint(snapshot.x(point), snapshot.y(point));
+        area.add(new Rectangle2D.Double(center.getX() - MARKER_SIZE, center.getY() - MARKER_SIZE,
+                2 * MARKER_SIZE, 2 * MARKER_SIZE));
+        return toScreenArea(area);
+    }
+
+    protected Rectangle rectangleArea() {
+        Rectangle2D area = new Rectangle2D.Double(rectPoint1.getX(), rectPoint1.getY(), 0, 0);
+        area.add(rectPoint2);
+        return toScreenArea(area);
+    }
+
+    protected Rectangle toScreenArea(Rectangle2D area) {
+        Shape shape = area;
+        if (turnCount != 0) {
+            double angle = turnCount * TURN_ANGLE;
+            shape = AffineTransform.getRotateInstance(angle, getSize().getWidth() / 2, getSize().getHeight() / 2)
+                    .createTransformedShape(area);
+        }
+        Rectangle r = shape.getBounds();
+        r.grow(DIRTY_MARGIN, DIRTY_MARGIN);
+        return r;
+    }
+
+    protected void scheduleRepaint() {
+        scheduleRepaint(new Rectangle(0, 0, getWidth(), getHeight()));
+    }
+
+    protected void scheduleRepaint(Rectangle area) {
+        if (dirtyArea == null) dirtyArea = new Rectangle(area);
+        else dirtyArea.add(area);
+        if (!frameTimer.isRunning()) frameTimer.start();
+    }
+
+    protected void scheduleAnalysis() {
+        if (!showRegions || !analysisScheduled.compareAndSet(false, true)) return;
+        analysisExecutor.execute(() -> {
+            analysisScheduled.set(false);
+            GraphicsSnapshot current = model.get();
+            if (current != null && !current.isAnalyzed()) replaceGraphics(current, current.analyzed());
+        });
+    }
+
+    protected static int frameDelay() {
+        int rate = DisplayMode.REFRESH_RATE_UNKNOWN;
+        if (!GraphicsEnvironment.isHeadless()) {
+            rate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+        }
+        if (rate == DisplayMode.REFRESH_RATE_UNKNOWN) rate = DEFAULT_REFRESH_RATE;
+        return Math.max(1, 1000 / rate);
+    }
+
     protected void paintMarkers(Graphics2D canvas) {
         canvas.setStroke(markerStroke);
-        int firstInd = 0; for (;firstInd < graphicsData.length && graphicsData[firstInd][0] < minX; ++firstInd ) ;
-        for (int i = firstInd; i < graphicsData.length && graphicsData[i][0] <= maxX; i++) {
+        int firstInd = 0; for (;firstInd < snapshot.size() && snapshot.x(firstInd) < minX; ++firstInd ) ;
+        for (int i = firstInd; i < snapshot.size() && snapshot.x(i) <= maxX; i++) {
             canvas.setPaint(Color.BLACK);
             canvas.setColor(Color.BLACK);
-            Point2D.Double center = xyToPoint(graphicsData[i][0], graphicsData[i][1]);
+            Point2D.Double center = xyToPoint(snapshot.x(i), snapshot.y(i));
             Line2D.Double line1 = new Line2D.Double(shiftPoint(center, -MARKER_SIZE, 0), shiftPoint(center, MARKER_SIZE, 0));
             Line2D.Double line2 = new Line2D.Double(shiftPoint(center, 0, -MARKER_SIZE), shiftPoint(center, 0, MARKER_SIZE));
             Line2D.Double line3 = new Line2D.Double(shiftPoint(center, -MARKER_SIZE, -MARKER_SIZE), shiftPoint(center, MARKER_SIZE, MARKER_SIZE));
             Line2D.Double line4 = new Line2D.Double(shiftPoint(center, -MARKER_SIZE, MARKER_SIZE), shiftPoint(center, MARKER_SIZE, -MARKER_SIZE));
 
-            if (graphicsData[i].equals(pointToPaint)) {
+            if (i == pointToPaint) {
                 canvas.setPaint(Color.YELLOW);
                 canvas.setColor(Color.YELLOW);
-            } else if (checkPoint(graphicsData[i][1])) {
+            } else if (checkPoint(snapshot.y(i))) {
                 canvas.setPaint(Color.GREEN);
                 canvas.setColor(Color.GREEN);
             }
@@ -333,44 +438,45 @@ public class GraphicsDisplay extends JPanel {
     }
 
     protected void paintRegions(Graphics2D canvas) {
+        GraphicsSnapshot regions = regionSnapshot;
         if (regions == null) return;
         canvas.setStroke(markerStroke);
         canvas.setPaint(Color.BLACK);
         canvas.setColor(Color.BLACK);
         int firstIndex = 0;
-        int firstItReg = 0; for (;firstItReg < regions.size() && regions.get(firstItReg) < minX; firstItReg++); if (firstItReg != 0) --firstItReg;
-        for (int itReg = firstItReg; itReg < regions.size() - 1; ++itReg) {
+        int firstItReg = 0; for (;firstItReg < regions.regionCount() && regions.region(firstItReg) < minX; firstItReg++); if (firstItReg != 0) --firstItReg;
+        for (int itReg = firstItReg; itReg < regions.regionCount() - 1; ++itReg) {
             GeneralPath region = new GeneralPath();
-            Point2D.Double point = xyToPoint(regions.get(itReg), 0);
+            Point2D.Double point = xyToPoint(regions.region(itReg), 0);
             region.moveTo(point.getX(), point.getY());
 
-            for (; firstIndex < graphicsData.length - 1 && regions.get(itReg) > graphicsData[firstIndex][0]; firstIndex++) ;
+            for (; firstIndex < regions.size() - 1 && regions.region(itReg) > regions.x(firstIndex); firstIndex++) ;
 
-            point = xyToPoint(graphicsData[firstIndex][0], graphicsData[firstIndex][1]);
+            point = xyToPoint(regions.x(firstIndex), regions.y(firstIndex));
             region.lineTo(point.getX(), point.getY());
 
-            for (int i = firstIndex + 1; i < graphicsData.length && graphicsData[i][0] <= regions.get(itReg + 1); i++) {
-                point = xyToPoint(graphicsData[i][0], graphicsData[i][1]);
+            for (int i = firstIndex + 1; i < regions.size() && regions.x(i) <= regions.region(itReg + 1); i++) {
+                point = xyToPoint(regions.x(i), regions.y(i));
                 region.lineTo(point.getX(), point.getY());
             }
-            point = xyToPoint(regions.get(itReg + 1), 0);
+            point = xyToPoint(regions.region(itReg + 1), 0);
             region.lineTo(point.getX(), point.getY());
             region.closePath();
             canvas.draw(region);
             canvas.fill(region);
 
-            Double maxHeight = 0.0;
-            for (Double[] p : graphicsData) {
-                if (p[0] < regions.get(itReg)) continue;
-                if (p[0] > regions.get(itReg + 1)) break;
-                if (Math.abs(maxHeight) < Math.abs(p[1])) maxHeight = p[1];
+            double maxHeight = 0.0;
+            for (int i = 0; i < regions.size(); i++) {
+                if (regions.x(i) < regions.region(itReg)) continue;
+                if (regions.x(i) > regions.region(itReg + 1)) break;
+                if (Math.abs(maxHeight) < Math.abs(regions.y(i))) maxHeight = regions.y(i);
             }
             Font regFont = new Font("TimesRoman", Font.BOLD, 13);
             canvas.setFont(regFont);
-            Point2D.Double labelPos = xyToPoint((regions.get(itReg + 1) + regions.get(itReg)) / 2, maxHeight/2);
+            Point2D.Double labelPos = xyToPoint((regions.region(itReg + 1) + regions.region(itReg)) / 2, maxHeight/2);
             canvas.setPaint(Color.RED);
             String format = "%.2f";
-            String str = String.format(Locale.ENGLISH, format, squares.get(itReg));
+            String str = String.format(Locale.ENGLISH, format, regions.square(itReg));
             Rectangle2D bounds = regFont.getStringBounds(str, canvas.getFontRenderContext());
             canvas.drawString(str, (float) (labelPos.getX() - bounds.getWidth()/2),
                     (float) (labelPos.getY() + bounds.getHeight()/2));
@@ -380,44 +486,6 @@ public class GraphicsDisplay extends JPanel {
 
     }
 
-    protected void findRegions() {
-        regions = new ArrayList<>();
-        if (graphicsData[0][1] == 0) regions.add(graphicsData[0][0]);
-        for (int i = 1; i < graphicsData.length; i++) {
-            if (graphicsData[i][1] == 0) {
-                regions.add(graphicsData[i][0]);
-            } else if (graphicsData[i - 1][1] * graphicsData[i][1] < 0) {
-                Double x = (graphicsData[i][0] * graphicsData[i - 1][1] - graphicsData[i - 1][0] * graphicsData[i][1])
-                        / (graphicsData[i - 1][1] - graphicsData[i][1]);
-                regions.add(x);
-            }
-        }
-        calcSquares();
-    }
-
-    protected void calcSquares() {
-        int calcSquareFirst = 0;
-        squares = new ArrayList<>();
-        Double sq;
-        for (int j = 0; j < regions.size() - 1; j++) {
-            sq = 0.0;
-            for (; calcSquareFirst < graphicsData.length && graphicsData[calcSquareFirst][0] < regions.get(j); calcSquareFirst++)
-                ;
-            if (graphicsData[calcSquareFirst][1] != 0) {
-                sq += graphicsData[calcSquareFirst][1] * (graphicsData[calcSquareFirst][0] - regions.get(j));
-            }
-            int i;
-            for (i = calcSquareFirst + 1; i < graphicsData.length - 1 && graphicsData[i][0] <= regions.get(j + 1); i++) {
-                sq += (graphicsData[i][1] + graphicsData[i - 1][1]) * (graphicsData[i][0] - graphicsData[i - 1][0]);
-            }
-            i--;
-            if (graphicsData[i][1] != 0) {
-                sq += graphicsData[i][1] * (regions.get(j + 1) - graphicsData[i][0]);
-            }
-            squares.add(Math.abs(sq / 2));
-        }
-    }
-
     protected void paintAxis(Graphics2D canvas) {
         canvas.setStroke(axisStroke);
         canvas.setColor(Color.BLACK);
@@ -469,7 +537,7 @@ public class GraphicsDisplay extends JPanel {
     protected void paintTurn(Graphics2D canvas) {
         double angle = turnCount * TURN_ANGLE;
         AffineTransform at = AffineTransform.getRotateInstance(angle, getSize().getWidth() / 2, getSize().getHeight() / 2);
-        canvas.setTransform(at);
+        canvas.transform(at);
     }
 
     protected Point2D transformPoint(Point2D p) {
@@ -481,30 +549,6 @@ public class GraphicsDisplay extends JPanel {
         return p;
     }
 
-    class DataComparatorForSearch implements Comparator<Double[]> {
-        double bounds;
-
-        DataComparatorForSearch(double bounds) {
-            this.bounds = bounds;
-        }
-
-        @Override
-        public int compare(Double[] o1, Double[] o2) {
-            if (Math.abs(o1[0] - o2[0]) <= bounds && Math.abs(o1[1] - o2[1]) <= bounds) return 0;
-            if (o1[0] < o2[0]) return -1;
-            return 1;
-        }
-    }
-
-    class DataComparatorForSort implements Comparator<Double[]> {
-        @Override
-        public int compare(Double[] o1, Double[] o2) {
-            if (o1[0] < o2[0]) return -1;
-            if (o1[0] > o2[0]) return 1;
-            return 0;
-        }
-    }
-
     protected Point2D.Double xyToPoint(double x, double y) {
         double deltaX = x - minX;
         double deltaY = maxY - y;
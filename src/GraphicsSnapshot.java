@@ -0,0 +1,238 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class GraphicsSnapshot {
+    static final int CHUNK_BITS = 12;
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+
+    private static final AtomicInteger loads = new AtomicInteger();
+
+    private final int loadId;
+    private final int size;
+    private final double[][] xChunks;
+    private final double[][] yChunks;
+    private final double[] bounds;
+    private final double[] regions;
+    private final double[] squares;
+
+    private GraphicsSnapshot(int loadId, int size, double[][] xChunks, double[][] yChunks, double[] bounds,
+                             double[] regions, double[] squares) {
+        this.loadId = loadId;
+        this.size = size;
+        this.xChunks = xChunks;
+        this.yChunks = yChunks;
+        this.bounds = bounds;
+        this.regions = regions;
+        this.squares = squares;
+    }
+
+    // Takes ownership of the arrays without copying; callers must not modify them afterwards.
+    static GraphicsSnapshot fromColumns(int size, double[][] xChunks, double[][] yChunks, double[] bounds,
+                                        double[] regions, double[] squares) {
+        return new GraphicsSnapshot(loads.incrementAndGet(), size, xChunks, yChunks, bounds, regions, squares);
+    }
+
+    public static GraphicsSnapshot of(Double[][] graphicsData) {
+        int n = graphicsData.length;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = graphicsData[i][0];
+            y[i] = graphicsData[i][1];
+        }
+        sort(x, y);
+
+        double[][] xChunks = newChunks(n);
+        double[][] yChunks = newChunks(n);
+        for (int c = 0; c < xChunks.length; c++) {
+            System.arraycopy(x, c * CHUNK_SIZE, xChunks[c], 0, xChunks[c].length);
+            System.arraycopy(y, c * CHUNK_SIZE, yChunks[c], 0, yChunks[c].length);
+        }
+
+        double[] bounds = new double[]{0, 0, 0, 0};
+        if (n > 0) {
+            double minY = y[0];
+            double maxY = minY;
+            for (int i = 1; i < n; i++) {
+                if (y[i] < minY) minY = y[i];
+                if (y[i] > maxY) maxY = y[i];
+            }
+            bounds = new double[]{x[0], minY, x[n - 1], maxY};
+        }
+        return fromColumns(n, xChunks, yChunks, bounds, null, null);
+    }
+
+    static double[][] newChunks(int size) {
+        double[][] chunks = new double[(size + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = new double[Math.min(CHUNK_SIZE, size - c * CHUNK_SIZE)];
+        }
+        return chunks;
+    }
+
+    static void sort(double[] x, double[] y) {
+        int n = x.length;
+        boolean ascending = true;
+        boolean descending = true;
+        for (int i = 1; i < n && (ascending || descending); i++) {
+            if (!(x[i - 1] <= x[i])) ascending = false;
+            if (!(x[i - 1] > x[i])) descending = false;
+        }
+        if (ascending) return;
+        if (descending) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                double t = x[i]; x[i] = x[j]; x[j] = t;
+                t = y[i]; y[i] = y[j]; y[j] = t;
+            }
+            return;
+        }
+
+        long[] keys = new long[n];
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            double v = x[i];
+            if (v == 0) v = 0.0;
+            long bits = Double.doubleToLongBits(v);
+            keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+            index[i] = i;
+        }
+
+        long[] keysBuf = new long[n];
+        int[] indexBuf = new int[n];
+        int[] count = new int[RADIX_MASK + 2];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(count, 0);
+            for (long k : keys) count[(int) ((k >>> shift) & RADIX_MASK) + 1]++;
+            if (count[(int) ((keys[0] >>> shift) & RADIX_MASK) + 1] == n) continue;
+            for (int d = 0; d <= RADIX_MASK; d++) count[d + 1] += count[d];
+            for (int i = 0; i < n; i++) {
+                int pos = count[(int) ((keys[i] >>> shift) & RADIX_MASK)]++;
+                keysBuf[pos] = keys[i];
+                indexBuf[pos] = index[i];
+            }
+            long[] k = keys; keys = keysBuf; keysBuf = k;
+            int[] ind = index; index = indexBuf; indexBuf = ind;
+        }
+
+        double[] sortedX = new double[n];
+        double[] sortedY = new double[n];
+        for (int i = 0; i < n; i++) {
+            sortedX[i] = x[index[i]];
+            sortedY[i] = y[index[i]];
+        }
+        System.arraycopy(sortedX, 0, x, 0, n);
+        System.arraycopy(sortedY, 0, y, 0, n);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double x(int i) {
+        return xChunks[i >>> CHUNK_BITS][i & CHUNK_MASK];
+    }
+
+    public double y(int i) {
+        return yChunks[i >>> CHUNK_BITS][i & CHUNK_MASK];
+    }
+
+    public boolean isSameLoad(GraphicsSnapshot other) {
+        return other != null && loadId == other.loadId;
+    }
+
+    public Double[][] getBounds() {
+        return new Double[][]{{bounds[0], bounds[1]}, {bounds[2], bounds[3]}};
+    }
+
+    public GraphicsSnapshot withY(int i, double y) {
+        double[][] newYChunks = yChunks.clone();
+        int c = i >>> CHUNK_BITS;
+        newYChunks[c] = yChunks[c].clone();
+        newYChunks[c][i & CHUNK_MASK] = y;
+        return new GraphicsSnapshot(loadId, size, xChunks, newYChunks, bounds, null, null);
+    }
+
+    public int indexOf(double x, double y, double tolerance) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double midX = x(mid);
+            if (Math.abs(midX - x) <= tolerance && Math.abs(y(mid) - y) <= tolerance) return mid;
+            if (midX < x) low = mid + 1;
+            else high = mid - 1;
+        }
+        return -1;
+    }
+
+    public boolean isAnalyzed() {
+        return regions != null;
+    }
+
+    public GraphicsSnapshot analyzed() {
+        if (isAnalyzed()) return this;
+        double[] regions = findRegions();
+        return new GraphicsSnapshot(loadId, size, xChunks, yChunks, bounds, regions, calcSquares(regions));
+    }
+
+    public int regionCount() {
+        return regions.length;
+    }
+
+    public double region(int i) {
+        return regions[i];
+    }
+
+    public double square(int i) {
+        return squares[i];
+    }
+
+    public Double[][] toArray() {
+        Double[][] graphicsData = new Double[size][];
+        for (int i = 0; i < size; i++) {
+            graphicsData[i] = new Double[]{x(i), y(i)};
+        }
+        return graphicsData;
+    }
+
+    private double[] findRegions() {
+        if (size == 0) return new double[0];
+        double[] found = new double[size];
+        int count = 0;
+        if (y(0) == 0) found[count++] = x(0);
+        for (int i = 1; i < size; i++) {
+            if (y(i) == 0) {
+                found[count++] = x(i);
+            } else if (y(i - 1) * y(i) < 0) {
+                found[count++] = (x(i) * y(i - 1) - x(i - 1) * y(i)) / (y(i - 1) - y(i));
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private double[] calcSquares(double[] regions) {
+        int calcSquareFirst = 0;
+        double[] squares = new double[Math.max(regions.length - 1, 0)];
+        for (int j = 0; j < regions.length - 1; j++) {
+            double sq = 0.0;
+            for (; calcSquareFirst < size - 1 && x(calcSquareFirst) < regions[j]; calcSquareFirst++)
+                ;
+            if (y(calcSquareFirst) != 0) {
+                sq += y(calcSquareFirst) * (x(calcSquareFirst) - regions[j]);
+            }
+            int i;
+            for (i = calcSquareFirst + 1; i < size - 1 && x(i) <= regions[j + 1]; i++) {
+                sq += (y(i) + y(i - 1)) * (x(i) - x(i - 1));
+            }
+            i--;
+            if (y(i) != 0) {
+                sq += y(i) * (regions[j + 1] - x(i));
+            }
+            squares[j] = Math.abs(sq / 2);
+        }
+        return squares;
+    }
+}
@@ -20,6 +20,7 @@ public class MainFrame extends JFrame {
     Action rotateRightGraphicsAction;
     Action saveChangedValues;
     private GraphicsDisplay display = new GraphicsDisplay();
+    private GraphicsCache cache = new GraphicsCache();
     private boolean fileLoaded = false;
 
     public MainFrame() {
@@ -108,6 +109,15 @@ public class MainFrame extends JFrame {
     }
 
     protected void openGraphics(File selectedFile) {
+        GraphicsSnapshot cached = cache.load(selectedFile);
+        if (cached != null && cached.size() > 0) {
+            fileLoaded = true;
+            saveChangedValues.setEnabled(true);
+            display.showGraphics(cached);
+            return;
+        }
+        long length = selectedFile.length();
+        long lastModified = selectedFile.lastModified();
         try {
             if(selectedFile.getName().endsWith(".bin")) {
                 DataInputStream in = new DataInputStream(new FileInputStream(selectedFile));
@@ -120,7 +130,7 @@ public class MainFrame extends JFrame {
                 }
                 if (graphicsData != null && graphicsData.length > 0) {
                     fileLoaded = true;
-                    display.showGraphics(graphicsData);
+                    showGraphics(selectedFile, graphicsData, length, lastModified);
                 }
                 in.close();
             }
@@ -155,7 +165,7 @@ public class MainFrame extends JFrame {
                 if (graphicsData != null && graphicsData.length > 0) {
                     fileLoaded = true;
                     saveChangedValues.setEnabled(true);
-                    display.showGraphics(graphicsData);
+                    showGraphics(selectedFile, graphicsData, length, lastModified);
                 }
                 reader.close();
             }
@@ -167,6 +177,18 @@ public class MainFrame extends JFrame {
         }
     }
 
+    protected void showGraphics(File selectedFile, Double[][] graphicsData, long length, long lastModified) {
+        GraphicsSnapshot snapshot = GraphicsSnapshot.of(graphicsData);
+        display.showGraphics(snapshot);
+        Thread cacheWriter = new Thread(() -> {
+            GraphicsSnapshot analyzed = snapshot.analyzed();
+            display.replaceGraphics(snapshot, analyzed);
+            cache.store(selectedFile, analyzed, length, lastModified);
+        }, "graphics-cache");
+        cacheWriter.setDaemon(true);
+        cacheWriter.start();
+    }
+
     protected void saveGraphics(File selectedFile, Double[][] graphics) {
         if(selectedFile.getName().endsWith(".bin")){
             try {